@@ -12,6 +12,15 @@ public class Board {
     /** 2D array representing the board cells */
     private final Cell[][] board;
 
+    /** Mine positions as a bitset, bit row * cols + col is set for a mine */
+    private final long[] packedLayout;
+
+    /** Order-independent 64-bit fingerprint of the mine layout and board size */
+    private long fingerprint;
+
+    /** Difficulty metrics, computed on first request */
+    private BoardStats stats;
+
     /** Directions for all 8 neighbors including diagonals */
     private static final int[][] possibleDirections = {
             {-1, -1}, {-1, 0}, {-1, 1},
@@ -28,11 +37,13 @@ public class Board {
      */
     public Board(int rows, int cols, int numMines) {
         board = new Cell[rows][cols];
+        packedLayout = new long[(rows * cols + 63) / 64];
         for (int r = 0; r < rows; r++)
             for (int c = 0; c < cols; c++)
                 board[r][c] = new Cell();
 
         placeMines(numMines);
+        finishFingerprint();
         calculateAdjacents();
     }
 
@@ -45,15 +56,20 @@ public class Board {
      */
     public Board(int rows, int cols, List<int[]> minePositions) {
         board = new Cell[rows][cols];
+        packedLayout = new long[(rows * cols + 63) / 64];
         for (int r = 0; r < rows; r++)
             for (int c = 0; c < cols; c++)
                 board[r][c] = new Cell();
 
         for (int[] pos : minePositions) {
             int r = pos[0], c = pos[1];
-            board[r][c].setMine(true);
+            if (!board[r][c].isMine()) {
+                board[r][c].setMine(true);
+                addToLayout(r, c);
+            }
         }
 
+        finishFingerprint();
         calculateAdjacents();
     }
 
@@ -64,20 +80,57 @@ public class Board {
      */
     private void placeMines(int numMines) {
         Random rand = new Random();
-        Set<String> used = new HashSet<>();
         int rows = getRows();
+        int cols = getCols();
+        int placed = 0;
 
-        while (used.size() < numMines) {
+        while (placed < numMines) {
             int r = rand.nextInt(rows);
             while (board[r].length == 0) r = rand.nextInt(rows);
             int c = rand.nextInt(board[r].length);
-            String key = r + "," + c;
-            if (used.add(key)) {
+            int index = r * cols + c;
+            if ((packedLayout[index >>> 6] & 1L << index) == 0) {
                 board[r][c].setMine(true);
+                addToLayout(r, c);
+                placed++;
             }
         }
     }
 
+    /**
+     * Records a newly placed mine in the packed layout and the running fingerprint.
+     * Mines are summed into the fingerprint so it does not depend on placement order.
+     *
+     * @param r row index of the mine
+     * @param c column index of the mine
+     */
+    private void addToLayout(int r, int c) {
+        int index = r * getCols() + c;
+        packedLayout[index >>> 6] |= 1L << index;
+        fingerprint += mix((long) r << 32 | (c & 0xFFFFFFFFL));
+    }
+
+    /**
+     * Mixes the board dimensions into the fingerprint once all mines are placed,
+     * so equal layouts on differently sized boards get different fingerprints.
+     */
+    private void finishFingerprint() {
+        fingerprint = mix(fingerprint ^ mix((long) getRows() << 32 | (getCols() & 0xFFFFFFFFL)));
+    }
+
+    /**
+     * SplitMix64 step, spreads the bits of the input across the whole long.
+     *
+     * @param z value to mix
+     * @return mixed value
+     */
+    private static long mix(long z) {
+        z += 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
     /**
      * Calculates and sets the adjacent mine counts for all cells.
      */
@@ -126,7 +179,50 @@ public class Board {
     private void revealNeighbours(int startR, int startC) {
         Queue<int[]> queue = new LinkedList<>();
         revealCellAndAddToQueue(startR, startC, queue);
-        processQueue(queue);
+        processQueue(queue, null);
+    }
+
+    /**
+     * Reveals many cells at once, e.g. a bot's or a replay's moves or a chord.
+     * Duplicate and already revealed positions are skipped, and all zero-adjacent
+     * cells are flood filled together so each cell is visited at most once.
+     * Positions are handled in order; a mine ends the batch (game over) and the
+     * positions after it are not revealed.
+     *
+     * @param positions cell positions as int[]{row, col}
+     * @return result with the mine flag and the newly revealed cells
+     * @throws IllegalArgumentException if any position is outside the board, nothing is revealed then
+     */
+    public RevealResult revealCells(List<int[]> positions) {
+        Queue<int[]> queue = new LinkedList<>();
+        List<int[]> opened = new ArrayList<>();
+        boolean mineHit = false;
+
+        for (int[] pos : positions) {
+            int r = pos[0], c = pos[1];
+            if (r < 0 || r >= getRows() || c < 0 || c >= board[r].length)
+                throw new IllegalArgumentException("Cell out of board range: " + r + "," + c);
+        }
+
+        for (int[] pos : positions) {
+            int r = pos[0], c = pos[1];
+            Cell cell = board[r][c];
+            if (cell.isRevealed()) continue;
+            if (cell.isMine()) {
+                System.out.println("Game over, stepped on mine");
+                mineHit = true;
+                break;
+            }
+            if (cell.getAdjacentMines() > 0) {
+                cell.setRevealed(true);
+                opened.add(new int[]{r, c});
+            } else {
+                revealCellAndAddToQueue(r, c, queue);
+            }
+        }
+
+        processQueue(queue, opened);
+        return new RevealResult(mineHit, opened);
     }
 
     /**
@@ -145,10 +241,12 @@ public class Board {
      * Processes the queue to reveal all zero adjacent neighbor cells.
      *
      * @param queue queue
+     * @param opened list collecting every cell taken from the queue, or null if not needed
      */
-    private void processQueue(Queue<int[]> queue) {
+    private void processQueue(Queue<int[]> queue, List<int[]> opened) {
         while (!queue.isEmpty()) {
             int[] pos = queue.poll();
+            if (opened != null) opened.add(pos);
             int r = pos[0], c = pos[1];
             Cell cell = board[r][c];
 
@@ -203,6 +301,66 @@ public class Board {
         }
     }
 
+    /**
+     * Returns a 64-bit fingerprint of the mine layout.
+     * Boards with the same size and the same mine positions always have the same fingerprint,
+     * no matter how the mines were placed. Cell reveal state is not part of it.
+     *
+     * @return layout fingerprint
+     */
+    public long getFingerprint() { return fingerprint; }
+
+    /**
+     * Returns the mine layout packed into a bitset.
+     * Bit {@code row * cols + col} is set when that cell holds a mine.
+     *
+     * @return copy of the packed layout
+     */
+    public long[] getPackedLayout() { return packedLayout.clone(); }
+
+    /**
+     * Checks if the given board has exactly the same size and mine positions as this one.
+     *
+     * @param other board to compare with
+     * @return true if both boards have the same layout, false otherwise
+     */
+    public boolean hasSameLayout(Board other) {
+        return other != null && other.fingerprint == fingerprint
+                && hasLayout(other.getRows(), other.getCols(), other.packedLayout);
+    }
+
+    /**
+     * Checks if this board has the given size and packed mine layout.
+     *
+     * @param rows number of rows
+     * @param cols number of columns
+     * @param packed packed layout as returned by {@link #getPackedLayout()}
+     * @return true if size and mine positions match, false otherwise
+     */
+    boolean hasLayout(int rows, int cols, long[] packed) {
+        return rows == getRows() && cols == getCols() && Arrays.equals(packed, packedLayout);
+    }
+
+    /**
+     * Returns the difficulty metrics of this board (3BV, openings, isolated numbers).
+     * They are computed in one sweep on first request and reused afterwards.
+     *
+     * @return board stats
+     */
+    public BoardStats getStats() { return getStats(false); }
+
+    /**
+     * Returns the difficulty metrics of this board, optionally computing them
+     * on several threads when the board is large.
+     *
+     * @param parallel true to allow a parallel sweep for large boards
+     * @return board stats
+     */
+    public BoardStats getStats(boolean parallel) {
+        if (stats == null) stats = BoardStats.compute(board, parallel);
+        return stats;
+    }
+
     /** @return number of rows */
     public int getRows() { return board.length; }
 
@@ -0,0 +1,226 @@
+package com.game;
+
+import java.util.stream.IntStream;
+
+/**
+ * Difficulty metrics of a board layout.
+ * 3BV is the minimum number of clicks needed to clear the board:
+ * one per opening (connected area of zero cells) plus one per
+ * isolated number (safe numbered cell not touching any zero cell).
+ */
+public class BoardStats {
+
+    /** Boards with fewer cells than this are always analysed on one thread */
+    private static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    /** Fewest strips a parallel sweep uses, so the work still balances when some threads are busy */
+    private static final int MIN_PARALLEL_STRIPS = 4;
+
+    /** Number of mines */
+    private final int mines;
+
+    /** Number of openings */
+    private final int openings;
+
+    /** Number of isolated numbers */
+    private final int isolatedNumbers;
+
+    /**
+     * Creates the stats from the computed counts.
+     *
+     * @param mines number of mines
+     * @param openings number of openings
+     * @param isolatedNumbers number of isolated numbers
+     */
+    private BoardStats(int mines, int openings, int isolatedNumbers) {
+        this.mines = mines;
+        this.openings = openings;
+        this.isolatedNumbers = isolatedNumbers;
+    }
+
+    /** @return number of mines */
+    public int getMines() { return mines; }
+
+    /** @return number of openings */
+    public int getOpenings() { return openings; }
+
+    /** @return number of isolated numbers */
+    public int getIsolatedNumbers() { return isolatedNumbers; }
+
+    /** @return minimum number of clicks needed to clear the board */
+    public int getThreeBV() { return openings + isolatedNumbers; }
+
+    /**
+     * Computes the stats for a board, using one strip per processor (at least
+     * {@value #MIN_PARALLEL_STRIPS}) when parallel analysis is requested and the board is large enough.
+     *
+     * @param cells board cells
+     * @param parallel true to use several threads for large boards
+     * @return computed stats
+     */
+    static BoardStats compute(Cell[][] cells, boolean parallel) {
+        int strips = 1;
+        if (parallel && cells.length > 0 && cells.length * cells[0].length >= PARALLEL_THRESHOLD)
+            strips = Math.max(MIN_PARALLEL_STRIPS, Runtime.getRuntime().availableProcessors());
+        return compute(cells, strips);
+    }
+
+    /**
+     * Computes the stats in one sweep over a board whose adjacent mine counts are set.
+     * Openings are counted with a union-find over zero cells, joining each zero cell
+     * to the zero neighbours already visited. With more than one strip the rows are
+     * split into strips that are swept in parallel and then joined along the strip borders.
+     *
+     * @param cells board cells
+     * @param strips number of row strips, capped at the number of rows
+     * @return computed stats
+     */
+    static BoardStats compute(Cell[][] cells, int strips) {
+        int rows = cells.length;
+        int cols = rows == 0 ? 0 : cells[0].length;
+        int[] parent = new int[rows * cols];
+        strips = Math.max(1, Math.min(rows, strips));
+
+        int[] mines = new int[strips];
+        int[] openings = new int[strips];
+        int[] isolated = new int[strips];
+        int stripCount = strips;
+        if (strips == 1) sweepStrip(cells, parent, cols, 0, rows, 0, mines, openings, isolated);
+        else IntStream.range(0, strips).parallel().forEach(s ->
+                sweepStrip(cells, parent, cols, rows * s / stripCount, rows * (s + 1) / stripCount, s, mines, openings, isolated));
+
+        int totalMines = 0, totalOpenings = 0, totalIsolated = 0;
+        for (int s = 0; s < strips; s++) {
+            totalMines += mines[s];
+            totalOpenings += openings[s];
+            totalIsolated += isolated[s];
+            if (s > 0) totalOpenings -= joinStripBorder(cells, parent, rows * s / strips);
+        }
+        return new BoardStats(totalMines, totalOpenings, totalIsolated);
+    }
+
+    /**
+     * Sweeps the rows of one strip, counting mines, openings and isolated numbers.
+     * Openings are only joined inside the strip.
+     *
+     * @param cells board cells
+     * @param parent union-find parents, indexed by row * cols + col
+     * @param cols number of columns
+     * @param fromRow first row of the strip
+     * @param toRow row after the last row of the strip
+     * @param strip index of the strip in the result arrays
+     * @param mines mine count per strip
+     * @param openings opening count per strip
+     * @param isolated isolated number count per strip
+     */
+    private static void sweepStrip(Cell[][] cells, int[] parent, int cols, int fromRow, int toRow, int strip,
+                                   int[] mines, int[] openings, int[] isolated) {
+        int rows = cells.length;
+        int stripMines = 0, stripOpenings = 0, stripIsolated = 0;
+
+        for (int r = fromRow; r < toRow; r++) {
+            for (int c = 0; c < cols; c++) {
+                Cell cell = cells[r][c];
+                if (cell.isMine()) {
+                    stripMines++;
+                    continue;
+                }
+
+                if (cell.getAdjacentMines() == 0) {
+                    int index = r * cols + c;
+                    parent[index] = index;
+                    stripOpenings++;
+                    if (c > 0 && isZero(cells[r][c - 1]) && union(parent, index, index - 1)) stripOpenings--;
+                    if (r > fromRow) {
+                        for (int nc = Math.max(0, c - 1); nc <= Math.min(cols - 1, c + 1); nc++)
+                            if (isZero(cells[r - 1][nc]) && union(parent, index, index - cols + nc - c)) stripOpenings--;
+                    }
+                } else if (!touchesZero(cells, r, c, rows, cols)) {
+                    stripIsolated++;
+                }
+            }
+        }
+
+        mines[strip] = stripMines;
+        openings[strip] = stripOpenings;
+        isolated[strip] = stripIsolated;
+    }
+
+    /**
+     * Joins openings that cross the border above the given row.
+     *
+     * @param cells board cells
+     * @param parent union-find parents
+     * @param row first row below the border
+     * @return number of openings that were merged away
+     */
+    private static int joinStripBorder(Cell[][] cells, int[] parent, int row) {
+        int cols = cells[0].length;
+        int merged = 0;
+        for (int c = 0; c < cols; c++) {
+            if (!isZero(cells[row][c])) continue;
+            int index = row * cols + c;
+            for (int nc = Math.max(0, c - 1); nc <= Math.min(cols - 1, c + 1); nc++)
+                if (isZero(cells[row - 1][nc]) && union(parent, index, index - cols + nc - c)) merged++;
+        }
+        return merged;
+    }
+
+    /**
+     * Checks if a numbered cell has a zero cell among its neighbours.
+     *
+     * @param cells board cells
+     * @param r row index
+     * @param c column index
+     * @param rows number of rows
+     * @param cols number of columns
+     * @return true if any neighbour is a zero cell
+     */
+    private static boolean touchesZero(Cell[][] cells, int r, int c, int rows, int cols) {
+        for (int nr = Math.max(0, r - 1); nr <= Math.min(rows - 1, r + 1); nr++)
+            for (int nc = Math.max(0, c - 1); nc <= Math.min(cols - 1, c + 1); nc++)
+                if ((nr != r || nc != c) && isZero(cells[nr][nc])) return true;
+        return false;
+    }
+
+    /**
+     * Checks if a cell is safe with no adjacent mines.
+     *
+     * @param cell cell to check
+     * @return true for a zero cell
+     */
+    private static boolean isZero(Cell cell) {
+        return !cell.isMine() && cell.getAdjacentMines() == 0;
+    }
+
+    /**
+     * Joins the sets of two cells.
+     *
+     * @param parent union-find parents
+     * @param a first cell index
+     * @param b second cell index
+     * @return true if they were in different sets
+     */
+    private static boolean union(int[] parent, int a, int b) {
+        int rootA = find(parent, a), rootB = find(parent, b);
+        if (rootA == rootB) return false;
+        if (rootA < rootB) parent[rootB] = rootA;
+        else parent[rootA] = rootB;
+        return true;
+    }
+
+    /**
+     * Finds the root of a cell's set, halving the path on the way.
+     *
+     * @param parent union-find parents
+     * @param index cell index
+     * @return root index
+     */
+    private static int find(int[] parent, int index) {
+        while (parent[index] != index) {
+            parent[index] = parent[parent[index]];
+            index = parent[index];
+        }
+        return index;
+    }
+}
@@ -0,0 +1,122 @@
+package com.game;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Stores one value per distinct board layout, for example a solver or
+ * simulation result, so identical boards are only analysed once.
+ * Boards are looked up by their fingerprint and compared by their packed mine layout,
+ * so two different layouts never share a value even if their fingerprints collide.
+ * Only the packed layout is kept, not the board, so boards can be changed or discarded
+ * after they are stored.
+ *
+ * @param <V> type of the cached value
+ */
+public class LayoutCache<V> {
+
+    /** Entries grouped by board fingerprint */
+    private final Map<Long, List<Entry<V>>> entries = new HashMap<>();
+
+    /** Number of distinct layouts stored */
+    private int size = 0;
+
+    /**
+     * Returns the value stored for the layout of the given board.
+     *
+     * @param board board to look up
+     * @return stored value, or null if this layout has not been stored
+     */
+    public V get(Board board) {
+        Entry<V> entry = find(board);
+        return entry == null ? null : entry.value;
+    }
+
+    /**
+     * Checks if a value is stored for the layout of the given board.
+     *
+     * @param board board to look up
+     * @return true if this layout has been stored, false otherwise
+     */
+    public boolean contains(Board board) {
+        return find(board) != null;
+    }
+
+    /**
+     * Stores a value for the layout of the given board, replacing any previous value.
+     *
+     * @param board board whose layout is the key
+     * @param value value to store
+     * @return previous value for this layout, or null if there was none
+     */
+    public V put(Board board, V value) {
+        Entry<V> entry = find(board);
+        if (entry != null) {
+            V previous = entry.value;
+            entry.value = value;
+            return previous;
+        }
+        add(board, value);
+        return null;
+    }
+
+    /**
+     * Returns the value stored for the layout of the given board,
+     * computing and storing it first if this layout is new.
+     *
+     * @param board board to look up
+     * @param compute function computing the value for a new layout
+     * @return stored or newly computed value
+     */
+    public V computeIfAbsent(Board board, Function<Board, V> compute) {
+        Entry<V> entry = find(board);
+        if (entry != null) return entry.value;
+        V value = compute.apply(board);
+        add(board, value);
+        return value;
+    }
+
+    /** @return number of distinct layouts stored */
+    public int size() { return size; }
+
+    /**
+     * Finds the entry whose board has the same layout as the given board.
+     *
+     * @param board board to look up
+     * @return matching entry, or null if none
+     */
+    private Entry<V> find(Board board) {
+        List<Entry<V>> bucket = entries.get(board.getFingerprint());
+        if (bucket == null) return null;
+        for (Entry<V> entry : bucket)
+            if (board.hasLayout(entry.rows, entry.cols, entry.layout)) return entry;
+        return null;
+    }
+
+    /**
+     * Adds a new entry for a layout that is not stored yet.
+     *
+     * @param board board whose layout is the key
+     * @param value value to store
+     */
+    private void add(Board board, V value) {
+        Entry<V> entry = new Entry<>(board.getRows(), board.getCols(), board.getPackedLayout(), value);
+        entries.computeIfAbsent(board.getFingerprint(), k -> new ArrayList<>(1)).add(entry);
+        size++;
+    }
+
+    /** A stored layout and its value */
+    private static class Entry<V> {
+        private final int rows;
+        private final int cols;
+        private final long[] layout;
+        private V value;
+
+        private Entry(int rows, int cols, long[] layout, V value) {
+            this.rows = rows;
+            this.cols = cols;
+            this.layout = layout;
+            this.value = value;
+        }
+    }
+}
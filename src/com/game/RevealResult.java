@@ -0,0 +1,48 @@
+package com.game;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of revealing a batch of cells with {@link Board#revealCells(List)}.
+ */
+public class RevealResult {
+
+    /** True if one of the positions was a mine */
+    private final boolean mineHit;
+
+    /** Cells revealed by the batch as int[]{row, col} */
+    private final List<int[]> openedCells;
+
+    /**
+     * Creates a reveal result.
+     *
+     * @param mineHit true if a mine was revealed
+     * @param openedCells cells revealed by the batch
+     */
+    RevealResult(boolean mineHit, List<int[]> openedCells) {
+        this.mineHit = mineHit;
+        this.openedCells = Collections.unmodifiableList(openedCells);
+    }
+
+    /**
+     * Checks if a mine was revealed.
+     *
+     * @return true if a mine was revealed (game over), false otherwise
+     */
+    public boolean isMineHit() { return mineHit; }
+
+    /**
+     * Gets the number of cells revealed by the batch.
+     *
+     * @return number of newly revealed cells
+     */
+    public int getCellsOpened() { return openedCells.size(); }
+
+    /**
+     * Gets the cells revealed by the batch. Cells that were already revealed are not included.
+     *
+     * @return newly revealed cells as int[]{row, col}
+     */
+    public List<int[]> getOpenedCells() { return openedCells; }
+}
@@ -0,0 +1,602 @@
+package com.game;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+import com.sun.management.GcInfo;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.lang.management.ThreadMXBean;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Long running load test for the game engine.
+ * Plays scripted games back to back on random boards at a fixed move rate
+ * and reports move latency percentiles, allocation rate, GC pauses and heap after GC.
+ * Two latencies are kept per move: service time, from when the move actually started,
+ * and response time, from when it was scheduled. With a move rate set, a stall shows
+ * up in the response time of every move that had to wait behind it.
+ * Samples from an initial warmup window are discarded so JIT compilation and startup
+ * do not end up in the percentiles.
+ * Moves go straight to {@link Board}, the same calls {@link Game} makes per click,
+ * so console input and board printing are not part of the measurement.
+ */
+public class SoakHarness {
+
+    /** GC actions that mark the end of a stop-the-world pause */
+    private static final Set<String> PAUSE_ACTIONS = new HashSet<>(Arrays.asList(
+            "end of minor GC", "end of major GC", "end of GC pause"));
+
+    /** Waits shorter than this are spun instead of parked, since parking wakes up late */
+    private static final long SPIN_NANOS = 200_000;
+
+    /** Longest warmup used when none is given */
+    private static final long DEFAULT_WARMUP_MILLIS = 10_000;
+
+    /** How often a progress line is printed during a run */
+    private static final long PROGRESS_INTERVAL_MILLIS = 60_000;
+
+    /** Board rows */
+    private final int rows;
+
+    /** Board columns */
+    private final int cols;
+
+    /** Mines per board */
+    private final int numMines;
+
+    /** Target moves per second, 0 to play as fast as possible */
+    private final int movesPerSecond;
+
+    /** How long to measure, after the warmup */
+    private final long durationMillis;
+
+    /** How long to play before measuring */
+    private final long warmupMillis;
+
+    /**
+     * Creates a soak harness with a warmup of a tenth of the duration, at most 10 seconds.
+     *
+     * @param rows number of rows of each board
+     * @param cols number of columns of each board
+     * @param numMines number of mines on each board
+     * @param movesPerSecond target move rate, 0 for unthrottled
+     * @param durationMillis how long to measure in milliseconds
+     */
+    public SoakHarness(int rows, int cols, int numMines, int movesPerSecond, long durationMillis) {
+        this(rows, cols, numMines, movesPerSecond, durationMillis, Math.min(DEFAULT_WARMUP_MILLIS, durationMillis / 10));
+    }
+
+    /**
+     * Creates a soak harness.
+     *
+     * @param rows number of rows of each board
+     * @param cols number of columns of each board
+     * @param numMines number of mines on each board
+     * @param movesPerSecond target move rate, 0 for unthrottled
+     * @param durationMillis how long to measure in milliseconds
+     * @param warmupMillis how long to play before measuring, 0 for no warmup
+     */
+    public SoakHarness(int rows, int cols, int numMines, int movesPerSecond, long durationMillis, long warmupMillis) {
+        if (rows <= 0 || cols <= 0) throw new IllegalArgumentException("Rows and columns must be positive.");
+        if (numMines < 0 || numMines > rows * cols) throw new IllegalArgumentException("Mines must be between 0 and " + rows * cols);
+        if (movesPerSecond < 0) throw new IllegalArgumentException("Move rate cannot be negative.");
+        if (durationMillis <= 0) throw new IllegalArgumentException("Duration must be positive.");
+        if (warmupMillis < 0) throw new IllegalArgumentException("Warmup cannot be negative.");
+        this.rows = rows;
+        this.cols = cols;
+        this.numMines = numMines;
+        this.movesPerSecond = movesPerSecond;
+        this.durationMillis = durationMillis;
+        this.warmupMillis = warmupMillis;
+    }
+
+    /**
+     * Runs the soak test from the command line.
+     * Arguments: [durationSeconds] [movesPerSecond] [rows] [cols] [mines] [warmupSeconds],
+     * defaulting to one hour at 1000 moves per second on a 16x30 board with 99 mines
+     * after a 10 second warmup.
+     *
+     * @param args command line arguments
+     */
+    public static void main(String[] args) {
+        long seconds = args.length > 0 ? Long.parseLong(args[0]) : 3600;
+        int rate = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        int rows = args.length > 2 ? Integer.parseInt(args[2]) : 16;
+        int cols = args.length > 3 ? Integer.parseInt(args[3]) : 30;
+        int mines = args.length > 4 ? Integer.parseInt(args[4]) : 99;
+        long warmup = args.length > 5 ? Long.parseLong(args[5]) : 10;
+
+        SoakHarness harness = new SoakHarness(rows, cols, mines, rate,
+                TimeUnit.SECONDS.toMillis(seconds), TimeUnit.SECONDS.toMillis(warmup));
+        System.out.println(harness.run(System.out));
+    }
+
+    /**
+     * Plays games through the warmup and then until the duration has passed, collecting the measurements.
+     * Console output from the board is discarded while the games run.
+     *
+     * @param progress stream for periodic progress lines, or null for none
+     * @return report of the measured part of the run
+     */
+    public Report run(PrintStream progress) {
+        Histogram serviceTime = new Histogram();
+        Histogram responseTime = new Histogram();
+        Histogram gcPauses = new Histogram();
+        long[] heapAfterGc = {-1, -1};
+        Set<String> heapPools = heapPoolNames();
+        NotificationListener gcListener = (notification, handback) ->
+                recordGc(notification, heapPools, gcPauses, heapAfterGc);
+        List<NotificationEmitter> emitters = registerGcListener(gcListener);
+
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        com.sun.management.ThreadMXBean allocations = threads instanceof com.sun.management.ThreadMXBean
+                && ((com.sun.management.ThreadMXBean) threads).isThreadAllocatedMemorySupported()
+                ? (com.sun.management.ThreadMXBean) threads : null;
+        long threadId = Thread.currentThread().getId();
+
+        PrintStream originalOut = System.out;
+        System.setOut(new PrintStream(new OutputStream() {
+            @Override
+            public void write(int b) {}
+        }));
+
+        Random rand = new Random();
+        int[] script = new int[rows * cols];
+        long intervalNanos = movesPerSecond > 0 ? TimeUnit.SECONDS.toNanos(1) / movesPerSecond : 0;
+        long games = 0, moves = 0;
+        long heapStart = heapUsed();
+        long allocatedStart = allocations != null ? allocations.getThreadAllocatedBytes(threadId) : 0;
+        long start = System.nanoTime();
+        long measureFrom = start + TimeUnit.MILLISECONDS.toNanos(warmupMillis);
+        long end = measureFrom + TimeUnit.MILLISECONDS.toNanos(durationMillis);
+        boolean measuring = warmupMillis == 0;
+        long nextProgress = start + TimeUnit.MILLISECONDS.toNanos(PROGRESS_INTERVAL_MILLIS);
+        long nextMove = start;
+        long now = start;
+
+        try {
+            while (now < end) {
+                Board board = new Board(rows, cols, numMines);
+                shuffleScript(script, rand);
+                games++;
+
+                for (int i = 0; i < script.length && now < end; i++) {
+                    if (intervalNanos > 0) waitUntil(nextMove);
+                    long moveStart = System.nanoTime();
+                    long scheduled = intervalNanos > 0 ? nextMove : moveStart;
+                    nextMove += intervalNanos;
+                    boolean gameOver = board.revealCell(script[i] / cols, script[i] % cols) || board.allSafeRevealed();
+                    now = System.nanoTime();
+                    serviceTime.record(now - moveStart);
+                    responseTime.record(now - scheduled);
+                    moves++;
+
+                    if (!measuring && now >= measureFrom) {
+                        measuring = true;
+                        serviceTime.clear();
+                        responseTime.clear();
+                        synchronized (gcPauses) {
+                            gcPauses.clear();
+                            heapAfterGc[0] = -1;
+                            heapAfterGc[1] = -1;
+                        }
+                        games = 0;
+                        moves = 0;
+                        heapStart = heapUsed();
+                        allocatedStart = allocations != null ? allocations.getThreadAllocatedBytes(threadId) : 0;
+                        start = now;
+                        nextMove = Math.max(nextMove, now);
+                    }
+                    if (progress != null && now >= nextProgress) {
+                        progress.println(progressLine(now - start, measuring, games, moves, responseTime));
+                        nextProgress += TimeUnit.MILLISECONDS.toNanos(PROGRESS_INTERVAL_MILLIS);
+                    }
+                    if (gameOver) break;
+                }
+            }
+        } finally {
+            System.setOut(originalOut);
+            unregisterGcListener(emitters, gcListener);
+        }
+
+        long elapsedNanos = System.nanoTime() - start;
+        long allocated = allocations != null ? allocations.getThreadAllocatedBytes(threadId) - allocatedStart : -1;
+        synchronized (gcPauses) {
+            return new Report(games, moves, elapsedNanos, serviceTime, responseTime, allocated, gcPauses,
+                    heapStart, heapUsed(), heapAfterGc[0], heapAfterGc[1]);
+        }
+    }
+
+    /**
+     * Waits until the given time. Parks while the wait is long and spins for the last
+     * stretch, since a parked thread usually wakes up tens of microseconds late.
+     *
+     * @param deadline {@link System#nanoTime()} value to wait for
+     */
+    private static void waitUntil(long deadline) {
+        long remaining = deadline - System.nanoTime();
+        while (remaining > SPIN_NANOS) {
+            LockSupport.parkNanos(remaining - SPIN_NANOS);
+            remaining = deadline - System.nanoTime();
+        }
+        while (System.nanoTime() < deadline) {
+            // spin for the last stretch
+        }
+    }
+
+    /**
+     * Fills the script with every cell index in random order.
+     *
+     * @param script array holding one entry per cell
+     * @param rand random source
+     */
+    private static void shuffleScript(int[] script, Random rand) {
+        for (int i = 0; i < script.length; i++) script[i] = i;
+        for (int i = script.length - 1; i > 0; i--) {
+            int j = rand.nextInt(i + 1);
+            int tmp = script[i];
+            script[i] = script[j];
+            script[j] = tmp;
+        }
+    }
+
+    /**
+     * Builds a one line progress snapshot.
+     *
+     * @param elapsedNanos time since the start of the warmup or the measurement
+     * @param measuring false while still warming up
+     * @param games games started so far
+     * @param moves moves played so far
+     * @param latency move response times so far
+     * @return progress line
+     */
+    private static String progressLine(long elapsedNanos, boolean measuring, long games, long moves, Histogram latency) {
+        return String.format("[%s %ds] games=%d moves=%d p50=%dns p99=%dns p999=%dns heap=%dKB",
+                measuring ? "run" : "warmup", TimeUnit.NANOSECONDS.toSeconds(elapsedNanos), games, moves,
+                latency.percentile(0.5), latency.percentile(0.99), latency.percentile(0.999), heapUsed() / 1024);
+    }
+
+    /** @return bytes of heap currently in use */
+    private static long heapUsed() {
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    /** @return names of the memory pools that belong to the heap */
+    private static Set<String> heapPoolNames() {
+        Set<String> names = new HashSet<>();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans())
+            if (pool.getType() == MemoryType.HEAP) names.add(pool.getName());
+        return names;
+    }
+
+    /**
+     * Registers the listener on every garbage collector that sends notifications.
+     *
+     * @param listener listener to register
+     * @return collectors the listener was registered on
+     */
+    private static List<NotificationEmitter> registerGcListener(NotificationListener listener) {
+        List<NotificationEmitter> emitters = new ArrayList<>();
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (gc instanceof NotificationEmitter) {
+                NotificationEmitter emitter = (NotificationEmitter) gc;
+                emitter.addNotificationListener(listener, null, null);
+                emitters.add(emitter);
+            }
+        }
+        return emitters;
+    }
+
+    /**
+     * Removes the listener from the collectors it was registered on.
+     *
+     * @param emitters collectors with the listener
+     * @param listener listener to remove
+     */
+    private static void unregisterGcListener(List<NotificationEmitter> emitters, NotificationListener listener) {
+        for (NotificationEmitter emitter : emitters) {
+            try {
+                emitter.removeNotificationListener(listener);
+            } catch (ListenerNotFoundException e) {
+                // already removed, nothing to do
+            }
+        }
+    }
+
+    /**
+     * Checks if a notification reports a stop-the-world pause.
+     * Collections ending a concurrent cycle, such as "end of GC cycle" from ZGC Cycles
+     * or Shenandoah Cycles, run alongside the application and are not pauses.
+     * Shenandoah Pauses names the pause phase ("Init Mark", "Final Mark", ...) as the action,
+     * so every notification from a collector bean named "... Pauses" counts as a pause.
+     *
+     * @param notification notification from a garbage collector
+     * @return true for a minor, major or explicit pause, false otherwise
+     */
+    public static boolean isPause(Notification notification) {
+        if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) return false;
+        if (!(notification.getUserData() instanceof CompositeData)) return false;
+        CompositeData data = (CompositeData) notification.getUserData();
+        return PAUSE_ACTIONS.contains(data.get("gcAction")) || isPausePhase(data);
+    }
+
+    /**
+     * Checks if a notification comes from a bean that reports single pause phases of a
+     * concurrent collector ("ZGC Pauses", "Shenandoah Pauses"). Their heap usage after GC
+     * is not meaningful; ZGC reports 0 bytes used there.
+     *
+     * @param data user data of a GC notification
+     * @return true for a pause phase notification
+     */
+    private static boolean isPausePhase(CompositeData data) {
+        Object name = data.get("gcName");
+        return name instanceof String && ((String) name).endsWith(" Pauses");
+    }
+
+    /**
+     * Records the pause time of stop-the-world collections and the heap left after
+     * complete collections. Pause phase notifications only count towards the pauses.
+     *
+     * @param notification notification from a garbage collector
+     * @param heapPools names of the heap memory pools
+     * @param gcPauses histogram of pause times in milliseconds
+     * @param heapAfterGc heap used after the first and the latest collection
+     */
+    private static void recordGc(Notification notification, Set<String> heapPools, Histogram gcPauses, long[] heapAfterGc) {
+        if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) return;
+        GcInfo gcInfo = GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData()).getGcInfo();
+        long heap = 0;
+        for (Map.Entry<String, MemoryUsage> pool : gcInfo.getMemoryUsageAfterGc().entrySet())
+            if (heapPools.contains(pool.getKey())) heap += pool.getValue().getUsed();
+
+        boolean pausePhase = isPausePhase((CompositeData) notification.getUserData());
+        synchronized (gcPauses) {
+            if (isPause(notification)) gcPauses.record(gcInfo.getDuration());
+            if (pausePhase) return;
+            if (heapAfterGc[0] < 0) heapAfterGc[0] = heap;
+            heapAfterGc[1] = heap;
+        }
+    }
+
+    /**
+     * Log-linear histogram of non-negative values with 16 sub-buckets per power of two,
+     * so percentiles are accurate to within about 6% while memory use stays fixed
+     * no matter how long the run is.
+     */
+    private static class Histogram {
+
+        /** Sub-buckets per power of two */
+        private static final int SUB_BUCKETS = 16;
+
+        /** Counts per bucket */
+        private final long[] counts = new long[60 * SUB_BUCKETS];
+
+        /** Number of recorded values */
+        private long count = 0;
+
+        /** Largest recorded value */
+        private long max = 0;
+
+        /**
+         * Records a value.
+         *
+         * @param value value to record, negative values count as 0
+         */
+        private void record(long value) {
+            if (value < 0) value = 0;
+            counts[bucketOf(value)]++;
+            count++;
+            if (value > max) max = value;
+        }
+
+        /** Removes all recorded values. */
+        private void clear() {
+            Arrays.fill(counts, 0);
+            count = 0;
+            max = 0;
+        }
+
+        /**
+         * Returns the value below which the given fraction of recorded values fall.
+         *
+         * @param fraction fraction between 0 and 1, e.g. 0.99
+         * @return upper bound of the matching bucket, or 0 if nothing was recorded
+         */
+        private long percentile(double fraction) {
+            if (count == 0) return 0;
+            long target = Math.max(1, (long) Math.ceil(fraction * count));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= target) return Math.min(upperBoundOf(i), max);
+            }
+            return max;
+        }
+
+        /**
+         * Finds the bucket for a value.
+         *
+         * @param value non-negative value
+         * @return bucket index
+         */
+        private static int bucketOf(long value) {
+            if (value < SUB_BUCKETS) return (int) value;
+            int shift = 63 - Long.numberOfLeadingZeros(value) - 4;
+            return (shift + 1) * SUB_BUCKETS + (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+        }
+
+        /**
+         * Returns the largest value that falls in a bucket.
+         *
+         * @param index bucket index
+         * @return largest value of the bucket
+         */
+        private static long upperBoundOf(int index) {
+            if (index < SUB_BUCKETS) return index;
+            int shift = index / SUB_BUCKETS - 1;
+            long sub = index % SUB_BUCKETS;
+            return ((SUB_BUCKETS + sub + 1) << shift) - 1;
+        }
+    }
+
+    /**
+     * Results of the measured part of a soak run. Latencies are in nanoseconds, GC pauses
+     * in milliseconds and memory in bytes. Heap figures cover the heap memory pools only.
+     * Response time is measured from when a move was scheduled and service time from
+     * when it actually started; without a move rate the two are the same.
+     * GC pause durations come from {@code GcInfo.getDuration()}, which has 1ms resolution,
+     * so sub-millisecond pauses (e.g. every ZGC pause) are recorded as 0ms.
+     */
+    public static class Report {
+        private final long games;
+        private final long moves;
+        private final long elapsedNanos;
+        private final long latencyP50;
+        private final long latencyP99;
+        private final long latencyP999;
+        private final long latencyMax;
+        private final long serviceP50;
+        private final long serviceP99;
+        private final long serviceP999;
+        private final long serviceMax;
+        private final long allocatedBytes;
+        private final long gcCount;
+        private final long gcPauseP50;
+        private final long gcPauseP99;
+        private final long gcPauseMax;
+        private final long heapStart;
+        private final long heapEnd;
+        private final long heapAfterFirstGc;
+        private final long heapAfterLastGc;
+
+        private Report(long games, long moves, long elapsedNanos, Histogram serviceTime, Histogram responseTime,
+                       long allocatedBytes, Histogram gcPauses, long heapStart, long heapEnd,
+                       long heapAfterFirstGc, long heapAfterLastGc) {
+            this.games = games;
+            this.moves = moves;
+            this.elapsedNanos = elapsedNanos;
+            this.latencyP50 = responseTime.percentile(0.5);
+            this.latencyP99 = responseTime.percentile(0.99);
+            this.latencyP999 = responseTime.percentile(0.999);
+            this.latencyMax = responseTime.max;
+            this.serviceP50 = serviceTime.percentile(0.5);
+            this.serviceP99 = serviceTime.percentile(0.99);
+            this.serviceP999 = serviceTime.percentile(0.999);
+            this.serviceMax = serviceTime.max;
+            this.allocatedBytes = allocatedBytes;
+            this.gcCount = gcPauses.count;
+            this.gcPauseP50 = gcPauses.percentile(0.5);
+            this.gcPauseP99 = gcPauses.percentile(0.99);
+            this.gcPauseMax = gcPauses.max;
+            this.heapStart = heapStart;
+            this.heapEnd = heapEnd;
+            this.heapAfterFirstGc = heapAfterFirstGc;
+            this.heapAfterLastGc = heapAfterLastGc;
+        }
+
+        /** @return number of games started */
+        public long getGames() { return games; }
+
+        /** @return number of moves played */
+        public long getMoves() { return moves; }
+
+        /** @return length of the measured run in nanoseconds */
+        public long getElapsedNanos() { return elapsedNanos; }
+
+        /** @return median move response time */
+        public long getLatencyP50() { return latencyP50; }
+
+        /** @return 99th percentile move response time */
+        public long getLatencyP99() { return latencyP99; }
+
+        /** @return 99.9th percentile move response time */
+        public long getLatencyP999() { return latencyP999; }
+
+        /** @return slowest move response time */
+        public long getLatencyMax() { return latencyMax; }
+
+        /** @return median move service time */
+        public long getServiceP50() { return serviceP50; }
+
+        /** @return 99th percentile move service time */
+        public long getServiceP99() { return serviceP99; }
+
+        /** @return 99.9th percentile move service time */
+        public long getServiceP999() { return serviceP999; }
+
+        /** @return slowest move service time */
+        public long getServiceMax() { return serviceMax; }
+
+        /** @return bytes allocated by the game thread, or -1 if the JVM cannot tell */
+        public long getAllocatedBytes() { return allocatedBytes; }
+
+        /** @return bytes allocated per second, or -1 if the JVM cannot tell */
+        public long getAllocationRate() {
+            if (allocatedBytes < 0 || elapsedNanos == 0) return -1;
+            return (long) (allocatedBytes / (elapsedNanos / 1e9));
+        }
+
+        /** @return number of stop-the-world collections during the run */
+        public long getGcCount() { return gcCount; }
+
+        /** @return median GC pause */
+        public long getGcPauseP50() { return gcPauseP50; }
+
+        /** @return 99th percentile GC pause */
+        public long getGcPauseP99() { return gcPauseP99; }
+
+        /** @return longest GC pause */
+        public long getGcPauseMax() { return gcPauseMax; }
+
+        /** @return heap in use when the run started */
+        public long getHeapStart() { return heapStart; }
+
+        /** @return heap in use when the run ended */
+        public long getHeapEnd() { return heapEnd; }
+
+        /** @return heap in use after the first collection, or -1 if none happened */
+        public long getHeapAfterFirstGc() { return heapAfterFirstGc; }
+
+        /** @return heap in use after the latest collection, or -1 if none happened */
+        public long getHeapAfterLastGc() { return heapAfterLastGc; }
+
+        /**
+         * Returns the report in a readable multi-line form.
+         *
+         * @return formatted report
+         */
+        @Override
+        public String toString() {
+            double seconds = elapsedNanos / 1e9;
+            return String.format("Soak run: %.1fs, %d games, %d moves (%.0f moves/s)%n", seconds, games, moves, moves / seconds)
+                    + String.format("Move response time: p50=%dns p99=%dns p999=%dns max=%dns%n", latencyP50, latencyP99, latencyP999, latencyMax)
+                    + String.format("Move service time: p50=%dns p99=%dns p999=%dns max=%dns%n", serviceP50, serviceP99, serviceP999, serviceMax)
+                    + String.format("Allocation: %d bytes total, %d bytes/s%n", allocatedBytes, getAllocationRate())
+                    + String.format("GC pauses (1ms resolution): count=%d p50=%dms p99=%dms max=%dms%n", gcCount, gcPauseP50, gcPauseP99, gcPauseMax)
+                    + String.format("Heap: start=%s end=%s after first GC=%s after last GC=%s",
+                    kilobytes(heapStart), kilobytes(heapEnd), kilobytes(heapAfterFirstGc), kilobytes(heapAfterLastGc));
+        }
+
+        /**
+         * Formats a byte count in kilobytes.
+         *
+         * @param bytes byte count, or -1 if not available
+         * @return formatted value, or "n/a" if not available
+         */
+        private static String kilobytes(long bytes) {
+            return bytes < 0 ? "n/a" : bytes / 1024 + "KB";
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package test;
+
+import com.game.Board;
+import com.game.BoardStats;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoardStatsTest {
+
+    @Test
+    void testSingleOpeningClearsInOneClick() {
+        BoardStats stats = new Board(3, 3, Collections.singletonList(new int[]{0, 0})).getStats();
+        assertEquals(1, stats.getMines());
+        assertEquals(1, stats.getOpenings());
+        assertEquals(0, stats.getIsolatedNumbers());
+        assertEquals(1, stats.getThreeBV());
+    }
+
+    @Test
+    void testNoOpeningsAllNumbersIsolated() {
+        BoardStats stats = new Board(2, 2, Collections.singletonList(new int[]{0, 0})).getStats();
+        assertEquals(0, stats.getOpenings());
+        assertEquals(3, stats.getIsolatedNumbers());
+        assertEquals(3, stats.getThreeBV());
+    }
+
+    @Test
+    void testMineSplitsBoardIntoTwoOpenings() {
+        BoardStats stats = new Board(1, 5, Collections.singletonList(new int[]{0, 2})).getStats();
+        assertEquals(2, stats.getOpenings());
+        assertEquals(0, stats.getIsolatedNumbers());
+        assertEquals(2, stats.getThreeBV());
+    }
+
+    @Test
+    void testOpeningsJoinedDiagonally() {
+        BoardStats stats = new Board(4, 4, Arrays.asList(new int[]{0, 3}, new int[]{3, 0})).getStats();
+        assertEquals(1, stats.getOpenings(), "Zero cells touching diagonally belong to the same opening");
+        assertEquals(0, stats.getIsolatedNumbers());
+    }
+
+    @Test
+    void testNoMinesIsOneOpening() {
+        BoardStats stats = new Board(3, 4, Collections.emptyList()).getStats();
+        assertEquals(0, stats.getMines());
+        assertEquals(1, stats.getThreeBV());
+    }
+
+    @Test
+    void testParallelMatchesSequentialOnLargeBoard() {
+        List<int[]> mines = new ArrayList<>();
+        for (int c = 0; c < 300; c++) mines.add(new int[]{150, c});
+        mines.add(new int[]{40, 40});
+
+        BoardStats sequential = new Board(300, 300, mines).getStats(false);
+        BoardStats parallel = new Board(300, 300, mines).getStats(true);
+
+        assertEquals(2, sequential.getOpenings());
+        assertEquals(sequential.getOpenings(), parallel.getOpenings());
+        assertEquals(sequential.getIsolatedNumbers(), parallel.getIsolatedNumbers());
+        assertEquals(sequential.getMines(), parallel.getMines());
+    }
+
+    @Test
+    void testParallelJoinsOpeningSpanningAllStrips() {
+        BoardStats stats = new Board(300, 300, Collections.emptyList()).getStats(true);
+        assertEquals(1, stats.getOpenings(), "Opening spanning every strip should be counted once");
+        assertEquals(1, stats.getThreeBV());
+    }
+
+    @Test
+    void testParallelMatchesSequentialOnDenseBoards() {
+        Random rand = new Random(42);
+        for (int round = 0; round < 5; round++) {
+            List<int[]> mines = new ArrayList<>();
+            for (int r = 0; r < 300; r++)
+                for (int c = 0; c < 250; c++)
+                    if (rand.nextInt(100) < 12 + round * 2) mines.add(new int[]{r, c});
+
+            BoardStats sequential = new Board(300, 250, mines).getStats(false);
+            BoardStats parallel = new Board(300, 250, mines).getStats(true);
+
+            assertEquals(sequential.getOpenings(), parallel.getOpenings(), "Openings, round " + round);
+            assertEquals(sequential.getIsolatedNumbers(), parallel.getIsolatedNumbers(), "Isolated numbers, round " + round);
+            assertEquals(sequential.getMines(), parallel.getMines(), "Mines, round " + round);
+        }
+    }
+
+    @Test
+    void testStatsAreReused() {
+        Board board = new Board(3, 3, Collections.singletonList(new int[]{1, 1}));
+        assertSame(board.getStats(), board.getStats());
+    }
+}
@@ -1,6 +1,7 @@
 package test;
 
 import com.game.Board;
+import com.game.RevealResult;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
@@ -99,4 +100,100 @@ class BoardTest {
         Assertions.assertFalse(board.revealCell(1, 1));
         Assertions.assertTrue(board.allSafeRevealed(), "Only one safe cell, revealing it should win the game");
     }
+
+    @Test
+    void testFingerprintIgnoresMineOrder() {
+        Board first = new Board(3, 3, Arrays.asList(new int[]{0, 0}, new int[]{2, 1}));
+        Board second = new Board(3, 3, Arrays.asList(new int[]{2, 1}, new int[]{0, 0}));
+        Assertions.assertEquals(first.getFingerprint(), second.getFingerprint());
+        Assertions.assertTrue(first.hasSameLayout(second));
+    }
+
+    @Test
+    void testFingerprintDiffersForDifferentLayouts() {
+        Board empty = new Board(3, 3, Collections.emptyList());
+        Board cornerMine = new Board(3, 3, Collections.singletonList(new int[]{0, 0}));
+        Board otherMine = new Board(3, 3, Collections.singletonList(new int[]{1, 1}));
+        Board widerEmpty = new Board(3, 4, Collections.emptyList());
+        Assertions.assertNotEquals(empty.getFingerprint(), cornerMine.getFingerprint());
+        Assertions.assertNotEquals(cornerMine.getFingerprint(), otherMine.getFingerprint());
+        Assertions.assertNotEquals(empty.getFingerprint(), widerEmpty.getFingerprint());
+        Assertions.assertFalse(cornerMine.hasSameLayout(otherMine));
+    }
+
+    @Test
+    void testFingerprintNotChangedByReveal() {
+        Board board = new Board(3, 3, Collections.singletonList(new int[]{0, 0}));
+        long before = board.getFingerprint();
+        board.revealCell(2, 2);
+        Assertions.assertEquals(before, board.getFingerprint());
+    }
+
+    @Test
+    void testRandomBoardFingerprintMatchesPredefinedLayout() {
+        Board full = new Board(2, 2, 4);
+        Board predefined = new Board(2, 2, Arrays.asList(
+                new int[]{0, 0}, new int[]{0, 1}, new int[]{1, 0}, new int[]{1, 1}
+        ));
+        Assertions.assertEquals(predefined.getFingerprint(), full.getFingerprint());
+        Assertions.assertTrue(full.hasSameLayout(predefined));
+    }
+
+    @Test
+    void testRevealCellsCoalescesFloodFill() {
+        Board board = new Board(3, 3, Collections.singletonList(new int[]{0, 0}));
+        RevealResult result = board.revealCells(Arrays.asList(
+                new int[]{2, 2}, new int[]{2, 2}, new int[]{0, 1}, new int[]{1, 2}
+        ));
+        Assertions.assertFalse(result.isMineHit());
+        Assertions.assertEquals(8, result.getCellsOpened(), "Every safe cell should be opened exactly once");
+        Assertions.assertTrue(board.allSafeRevealed());
+    }
+
+    @Test
+    void testRevealCellsStopsAtMine() {
+        Board board = new Board(2, 2, Collections.singletonList(new int[]{0, 0}));
+        RevealResult result = board.revealCells(Arrays.asList(
+                new int[]{0, 1}, new int[]{0, 0}, new int[]{1, 1}
+        ));
+        Assertions.assertTrue(result.isMineHit(), "Batch containing a mine should end the game");
+        Assertions.assertEquals(1, result.getCellsOpened(), "Cells after the mine should not be revealed");
+        Assertions.assertArrayEquals(new int[]{0, 1}, result.getOpenedCells().get(0));
+    }
+
+    @Test
+    void testRevealCellsSkipsAlreadyRevealed() {
+        Board board = new Board(2, 2, Collections.singletonList(new int[]{0, 0}));
+        Assertions.assertFalse(board.revealCell(0, 1));
+        RevealResult result = board.revealCells(Arrays.asList(new int[]{0, 1}, new int[]{1, 0}));
+        Assertions.assertEquals(1, result.getCellsOpened());
+        Assertions.assertArrayEquals(new int[]{1, 0}, result.getOpenedCells().get(0));
+    }
+
+    @Test
+    void testRevealCellsOutOfRangeRevealsNothing() {
+        Board board = new Board(2, 2, Collections.emptyList());
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> board.revealCells(Arrays.asList(new int[]{0, 0}, new int[]{2, 0})));
+        RevealResult result = board.revealCells(Collections.singletonList(new int[]{1, 1}));
+        Assertions.assertEquals(4, result.getCellsOpened(), "Failed batch should not have revealed any cell");
+    }
+
+    @Test
+    void testPackedLayoutMarksMines() {
+        Board board = new Board(3, 3, Arrays.asList(new int[]{0, 0}, new int[]{2, 1}));
+        long[] packed = board.getPackedLayout();
+        Assertions.assertEquals(1, packed.length);
+        Assertions.assertEquals((1L << 0) | (1L << 7), packed[0]);
+        packed[0] = 0;
+        Assertions.assertNotEquals(0, board.getPackedLayout()[0], "Returned layout should be a copy");
+    }
+
+    @Test
+    void testRandomBoardPlacesExactMineCount() {
+        Board board = new Board(16, 30, 99);
+        int mines = 0;
+        for (long word : board.getPackedLayout()) mines += Long.bitCount(word);
+        Assertions.assertEquals(99, mines);
+    }
 }
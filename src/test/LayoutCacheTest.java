@@ -0,0 +1,73 @@
+package test;
+
+import com.game.Board;
+import com.game.LayoutCache;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LayoutCacheTest {
+
+    @Test
+    void testSameLayoutSharesValue() {
+        LayoutCache<String> cache = new LayoutCache<>();
+        Board first = new Board(3, 3, Arrays.asList(new int[]{0, 0}, new int[]{1, 2}));
+        Board second = new Board(3, 3, Arrays.asList(new int[]{1, 2}, new int[]{0, 0}));
+
+        assertNull(cache.put(first, "solved"));
+        assertTrue(cache.contains(second), "Identical layout should be found");
+        assertEquals("solved", cache.get(second));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void testDifferentLayoutsStoredSeparately() {
+        LayoutCache<Integer> cache = new LayoutCache<>();
+        cache.put(new Board(2, 2, Collections.singletonList(new int[]{0, 0})), 1);
+        cache.put(new Board(2, 2, Collections.singletonList(new int[]{1, 1})), 2);
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.get(new Board(2, 2, Collections.singletonList(new int[]{0, 0}))));
+        assertFalse(cache.contains(new Board(2, 2, Collections.emptyList())));
+    }
+
+    @Test
+    void testPutReplacesValue() {
+        LayoutCache<String> cache = new LayoutCache<>();
+        Board board = new Board(2, 2, Collections.singletonList(new int[]{0, 1}));
+        cache.put(board, "old");
+        assertEquals("old", cache.put(board, "new"));
+        assertEquals("new", cache.get(board));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void testComputeIfAbsentComputesOncePerLayout() {
+        LayoutCache<Integer> cache = new LayoutCache<>();
+        AtomicInteger calls = new AtomicInteger();
+
+        for (int i = 0; i < 5; i++) {
+            Board board = new Board(3, 3, Collections.singletonList(new int[]{2, 2}));
+            assertEquals(42, cache.computeIfAbsent(board, b -> {
+                calls.incrementAndGet();
+                return 42;
+            }));
+        }
+
+        assertEquals(1, calls.get(), "Value should only be computed for the first board");
+    }
+
+    @Test
+    void testStoredLayoutUnaffectedByLaterReveals() {
+        LayoutCache<String> cache = new LayoutCache<>();
+        Board board = new Board(3, 3, Collections.singletonList(new int[]{0, 0}));
+        cache.put(board, "solved");
+        board.revealCell(2, 2);
+
+        assertEquals("solved", cache.get(new Board(3, 3, Collections.singletonList(new int[]{0, 0}))));
+    }
+}
@@ -0,0 +1,100 @@
+package test;
+
+import com.game.SoakHarness;
+import com.sun.management.GarbageCollectionNotificationInfo;
+import org.junit.jupiter.api.Test;
+
+import javax.management.Notification;
+import javax.management.openmbean.CompositeDataSupport;
+import javax.management.openmbean.CompositeType;
+import javax.management.openmbean.OpenDataException;
+import javax.management.openmbean.OpenType;
+import javax.management.openmbean.SimpleType;
+import java.io.PrintStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SoakHarnessTest {
+
+    @Test
+    void testShortRunReportsMoves() {
+        SoakHarness.Report report = new SoakHarness(9, 9, 10, 0, 200).run(null);
+        assertTrue(report.getGames() > 0, "Expected at least one game to be played");
+        assertTrue(report.getMoves() >= report.getGames(), "Every game should have at least one move");
+        assertTrue(report.getLatencyP50() <= report.getLatencyP99());
+        assertTrue(report.getLatencyP99() <= report.getLatencyP999());
+        assertTrue(report.getLatencyP999() <= report.getLatencyMax());
+    }
+
+    @Test
+    void testMoveRateIsLimited() {
+        SoakHarness.Report report = new SoakHarness(9, 9, 10, 100, 300).run(null);
+        assertTrue(report.getMoves() <= 31, "At 100 moves per second a 300ms run should play at most 31 moves");
+    }
+
+    @Test
+    void testServiceTimeNotAboveResponseTime() {
+        SoakHarness.Report report = new SoakHarness(9, 9, 10, 1000, 300, 0).run(null);
+        assertTrue(report.getServiceP50() <= report.getLatencyP50(), "Service time starts no earlier than the schedule");
+        assertTrue(report.getServiceMax() <= report.getLatencyMax());
+    }
+
+    @Test
+    void testWarmupNotMeasured() {
+        SoakHarness.Report report = new SoakHarness(9, 9, 10, 100, 200, 300).run(null);
+        assertTrue(report.getElapsedNanos() < 400_000_000L, "Reported run should only cover the measured part");
+        assertTrue(report.getMoves() <= 21, "Moves played during the warmup should not be counted");
+    }
+
+    @Test
+    void testMissingHeapFiguresShownAsNotAvailable() {
+        SoakHarness.Report report = new SoakHarness(2, 2, 1, 0, 20, 0).run(null);
+        if (report.getHeapAfterFirstGc() < 0)
+            assertTrue(report.toString().contains("after first GC=n/a"), "No GC should be shown as n/a, not 0KB");
+        else
+            assertFalse(report.toString().contains("after first GC=n/a"));
+    }
+
+    @Test
+    void testConsoleOutputRestored() {
+        PrintStream before = System.out;
+        new SoakHarness(2, 2, 4, 0, 50).run(null);
+        assertSame(before, System.out, "System.out should be restored after the run");
+    }
+
+    @Test
+    void testInvalidSettingsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new SoakHarness(0, 5, 1, 0, 1000));
+        assertThrows(IllegalArgumentException.class, () -> new SoakHarness(2, 2, 5, 0, 1000));
+        assertThrows(IllegalArgumentException.class, () -> new SoakHarness(2, 2, 1, -1, 1000));
+        assertThrows(IllegalArgumentException.class, () -> new SoakHarness(2, 2, 1, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> new SoakHarness(2, 2, 1, 0, 1000, -1));
+    }
+
+    @Test
+    void testOnlyStopTheWorldNotificationsArePauses() throws OpenDataException {
+        assertTrue(SoakHarness.isPause(gcNotification("G1 Young Generation", "end of minor GC")));
+        assertTrue(SoakHarness.isPause(gcNotification("G1 Old Generation", "end of major GC")));
+        assertTrue(SoakHarness.isPause(gcNotification("ZGC Pauses", "end of GC pause")));
+        assertTrue(SoakHarness.isPause(gcNotification("Shenandoah Pauses", "Init Mark")));
+        assertFalse(SoakHarness.isPause(gcNotification("ZGC Cycles", "end of GC cycle")),
+                "Concurrent ZGC cycles should not count as pauses");
+        assertFalse(SoakHarness.isPause(gcNotification("Shenandoah Cycles", "end of GC cycle")),
+                "Concurrent Shenandoah cycles should not count as pauses");
+    }
+
+    @Test
+    void testOtherNotificationsAreNotPauses() {
+        assertFalse(SoakHarness.isPause(new Notification("jmx.attribute.change", "gc", 1)));
+    }
+
+    private static Notification gcNotification(String gcName, String gcAction) throws OpenDataException {
+        String[] names = {"gcName", "gcAction", "gcCause"};
+        CompositeType type = new CompositeType("GcNotification", "GC notification", names, names,
+                new OpenType<?>[]{SimpleType.STRING, SimpleType.STRING, SimpleType.STRING});
+        Notification notification = new Notification(
+                GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION, gcName, 1);
+        notification.setUserData(new CompositeDataSupport(type, names, new Object[]{gcName, gcAction, "Allocation Failure"}));
+        return notification;
+    }
+}